@@ -0,0 +1,167 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * A read-only asset archive ({@code .pak}) written by {@link AssetPackWriter}. Layout, big-endian:
+ *
+ * <pre>
+ * int    magic "JCPK"
+ * int    version
+ * int    entry count
+ * entry* { short name length, UTF-8 name, long offset, int stored size, int size, byte method }
+ * data
+ * </pre>
+ *
+ * Entries are either stored or deflated. When the pack is a file it is memory-mapped, so only the
+ * pages of the entries actually read become resident; packs found only on the class path (inside a
+ * jar) are read into a heap buffer instead. {@link #directory} serves a loose, unpacked folder the same
+ * way for development runs.
+ */
+final class AssetPack {
+
+    static final int MAGIC = 0x4A43504B; // "JCPK"
+    static final int VERSION = 1;
+    static final byte STORED = 0;
+    static final byte DEFLATED = 1;
+
+    private record Entry(int offset, int storedSize, int size, byte method) {
+    }
+
+    private final ByteBuffer data;
+    private final Map<String, Entry> index;
+
+    private AssetPack(String name, ByteBuffer data) throws IOException {
+        this(data, readIndex(name, data.duplicate()));
+    }
+
+    private AssetPack(ByteBuffer data, Map<String, Entry> index) {
+        this.data = data;
+        this.index = index;
+    }
+
+    static AssetPack map(String name, Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new AssetPack(name, ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+        }
+    }
+
+    static AssetPack read(String name, InputStream in) throws IOException {
+        return new AssetPack(name, ByteBuffer.wrap(in.readAllBytes()));
+    }
+
+    /** Reads every file under {@code dir} into one heap buffer, as stored entries named relative to it. */
+    static AssetPack directory(Path dir) throws IOException {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(dir)) {
+            files = walk.filter(Files::isRegularFile).sorted().toList();
+        }
+        List<byte[]> contents = new ArrayList<>(files.size());
+        int total = 0;
+        for (Path f : files) {
+            byte[] bytes = Files.readAllBytes(f);
+            contents.add(bytes);
+            total += bytes.length;
+        }
+
+        ByteBuffer data = ByteBuffer.allocate(total);
+        Map<String, Entry> entries = new HashMap<>(files.size() * 2);
+        for (int i = 0; i < files.size(); i++) {
+            byte[] bytes = contents.get(i);
+            String name = dir.relativize(files.get(i)).toString().replace('\\', '/');
+            entries.put(name, new Entry(data.position(), bytes.length, bytes.length, STORED));
+            data.put(bytes);
+        }
+        return new AssetPack(data.clear(), entries);
+    }
+
+    private static Map<String, Entry> readIndex(String name, ByteBuffer b) throws IOException {
+        if (b.remaining() < 12 || b.getInt() != MAGIC) throw new IOException(name + ": not an asset pack");
+        int version = b.getInt();
+        if (version != VERSION) throw new IOException(name + ": unsupported pack version " + version);
+
+        int count = b.getInt();
+        Map<String, Entry> entries = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            byte[] nameBytes = new byte[b.getShort()];
+            b.get(nameBytes);
+            long offset = b.getLong();
+            int storedSize = b.getInt();
+            int size = b.getInt();
+            byte method = b.get();
+            if (offset < 0 || offset + storedSize > b.capacity()) throw new IOException(name + ": truncated pack");
+            entries.put(new String(nameBytes, StandardCharsets.UTF_8), new Entry((int) offset, storedSize, size, method));
+        }
+        return entries;
+    }
+
+    boolean contains(String entry) {
+        return index.containsKey(entry);
+    }
+
+    /** Streams an entry, inflating it on the fly; null if the pack has no such entry. */
+    InputStream stream(String entry) {
+        Entry e = index.get(entry);
+        if (e == null) return null;
+        InputStream raw = new BufferInputStream(data.slice(e.offset(), e.storedSize()));
+        return e.method() == DEFLATED ? new InflaterInputStream(raw) : raw;
+    }
+
+    /** Reads a whole entry; null if the pack has no such entry. */
+    byte[] read(String entry) throws IOException {
+        Entry e = index.get(entry);
+        if (e == null) return null;
+        try (InputStream in = stream(entry)) {
+            return in.readNBytes(e.size());
+        }
+    }
+
+    // InputStream view of a (possibly mapped) buffer, without copying it
+    private static final class BufferInputStream extends InputStream {
+        private final ByteBuffer buf;
+
+        BufferInputStream(ByteBuffer buf) {
+            this.buf = buf;
+        }
+
+        @Override
+        public int read() {
+            return buf.hasRemaining() ? buf.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) return 0;
+            if (!buf.hasRemaining()) return -1;
+            int n = Math.min(len, buf.remaining());
+            buf.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            int k = (int) Math.max(0, Math.min(n, buf.remaining()));
+            buf.position(buf.position() + k);
+            return k;
+        }
+
+        @Override
+        public int available() {
+            return buf.remaining();
+        }
+    }
+}
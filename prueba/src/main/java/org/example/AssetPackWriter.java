@@ -0,0 +1,95 @@
+package org.example;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Build tool: turns every directory under the asset source folder into one {@link AssetPack}
+ * ({@code src/main/assets/common} becomes {@code packs/common.pak}). Run by Maven in the
+ * {@code process-classes} phase:
+ *
+ * <pre>java -cp target/classes org.example.AssetPackWriter src/main/assets target/classes/packs</pre>
+ */
+public final class AssetPackWriter {
+
+    private AssetPackWriter() {
+    }
+
+    private record Packed(String name, byte[] stored, int size, byte method) {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: AssetPackWriter <asset dir> <output dir>");
+            System.exit(2);
+        }
+        Path src = Path.of(args[0]);
+        Path out = Path.of(args[1]);
+        Files.createDirectories(out);
+
+        try (Stream<Path> dirs = Files.list(src)) {
+            for (Path dir : dirs.filter(Files::isDirectory).sorted().toList()) {
+                Path pak = out.resolve(dir.getFileName() + ".pak");
+                write(dir, pak);
+                System.out.println("Packed " + dir.getFileName() + " -> " + pak + " (" + Files.size(pak) + " bytes)");
+            }
+        }
+    }
+
+    static void write(Path dir, Path pak) throws IOException {
+        List<Packed> entries = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path f : files.filter(Files::isRegularFile).sorted().toList()) {
+                String name = dir.relativize(f).toString().replace('\\', '/');
+                entries.add(pack(name, Files.readAllBytes(f)));
+            }
+        }
+
+        int indexSize = 12;
+        for (Packed e : entries) indexSize += 2 + e.name().getBytes(StandardCharsets.UTF_8).length + 8 + 4 + 4 + 1;
+
+        try (OutputStream os = Files.newOutputStream(pak);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os))) {
+            out.writeInt(AssetPack.MAGIC);
+            out.writeInt(AssetPack.VERSION);
+            out.writeInt(entries.size());
+            long offset = indexSize;
+            for (Packed e : entries) {
+                byte[] name = e.name().getBytes(StandardCharsets.UTF_8);
+                out.writeShort(name.length);
+                out.write(name);
+                out.writeLong(offset);
+                out.writeInt(e.stored().length);
+                out.writeInt(e.size());
+                out.writeByte(e.method());
+                offset += e.stored().length;
+            }
+            for (Packed e : entries) out.write(e.stored());
+        }
+    }
+
+    // Deflates an entry unless that saves less than 10%, in which case it is stored as is
+    private static Packed pack(String name, byte[] raw) throws IOException {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream(raw.length);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DeflaterOutputStream def = new DeflaterOutputStream(buf, deflater)) {
+            def.write(raw);
+        } finally {
+            deflater.end();
+        }
+        byte[] deflated = buf.toByteArray();
+        if (deflated.length < raw.length * 0.9) return new Packed(name, deflated, raw.length, AssetPack.DEFLATED);
+        return new Packed(name, raw, raw.length, AssetPack.STORED);
+    }
+}
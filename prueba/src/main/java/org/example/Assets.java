@@ -0,0 +1,107 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.CodeSource;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves asset paths of the form {@code <pack>/<entry>} (e.g. {@code common/death.wav},
+ * {@code level4/chaser.ai}) against the asset packs. Packs are opened on first use: from the
+ * {@code packs} directory next to the game (memory-mapped), or from {@code -Djumpcube.assets=<dir>},
+ * falling back to {@code /packs} on the class path. Per-level packs can be dropped again with
+ * {@link #retainOnly} when the level changes.
+ *
+ * <p>When no {@code .pak} exists, e.g. when {@code Main} is started from an IDE without Maven's
+ * {@code process-classes} step, a loose pack folder is used instead: {@code <dir>/<pack>/} for
+ * {@code -Djumpcube.assets=<dir>}, otherwise {@code src/main/assets/<pack>/} under the working
+ * directory. Its files are read into memory when it is first opened.
+ */
+final class Assets {
+
+    private static final Map<String, Optional<AssetPack>> packs = new ConcurrentHashMap<>();
+    private static final Path packDir = findPackDir();
+    private static final Path DEV_ASSET_DIR = Path.of("src", "main", "assets");
+
+    private Assets() {
+    }
+
+    /** Streams an asset, or returns null if it does not exist. */
+    static InputStream stream(String path) {
+        int slash = path.indexOf('/');
+        if (slash < 0) return null;
+        AssetPack pack = pack(path.substring(0, slash));
+        return pack == null ? null : pack.stream(path.substring(slash + 1));
+    }
+
+    /** Reads a whole asset, or returns null if it does not exist. */
+    static byte[] read(String path) {
+        int slash = path.indexOf('/');
+        if (slash < 0) return null;
+        AssetPack pack = pack(path.substring(0, slash));
+        try {
+            return pack == null ? null : pack.read(path.substring(slash + 1));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read asset " + path, e);
+        }
+    }
+
+    static boolean exists(String path) {
+        int slash = path.indexOf('/');
+        if (slash < 0) return false;
+        AssetPack pack = pack(path.substring(0, slash));
+        return pack != null && pack.contains(path.substring(slash + 1));
+    }
+
+    /** Forgets every open pack not listed; they are reopened if one of their assets is asked for again. */
+    static void retainOnly(String... keep) {
+        packs.keySet().retainAll(List.of(keep));
+    }
+
+    private static AssetPack pack(String name) {
+        return packs.computeIfAbsent(name, Assets::open).orElse(null);
+    }
+
+    private static Optional<AssetPack> open(String name) {
+        String file = name + ".pak";
+        try {
+            if (packDir != null && Files.isRegularFile(packDir.resolve(file))) {
+                return Optional.of(AssetPack.map(name, packDir.resolve(file)));
+            }
+            try (InputStream in = Assets.class.getResourceAsStream("/packs/" + file)) {
+                if (in != null) return Optional.of(AssetPack.read(name, in));
+            }
+            Path loose = packDir != null && Files.isDirectory(packDir.resolve(name))
+                    ? packDir.resolve(name)
+                    : DEV_ASSET_DIR.resolve(name);
+            if (Files.isDirectory(loose)) {
+                System.err.println("No " + file + ", using loose assets from " + loose.toAbsolutePath());
+                return Optional.of(AssetPack.directory(loose));
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return Optional.empty();
+    }
+
+    // target/classes/packs when running from the build, lib/app/packs in the jlink image
+    private static Path findPackDir() {
+        String configured = System.getProperty("jumpcube.assets");
+        if (configured != null) return Path.of(configured);
+        try {
+            CodeSource src = Assets.class.getProtectionDomain().getCodeSource();
+            if (src == null || src.getLocation() == null) return null;
+            Path location = Path.of(src.getLocation().toURI());
+            return Files.isDirectory(location) ? location.resolve("packs") : location.resolveSibling("packs");
+        } catch (URISyntaxException | IllegalArgumentException | SecurityException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package org.example;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled enemy behaviour. Scripts live in the level's asset pack (e.g. {@code level4/chaser.ai}) and have
+ * one rule per line:
+ *
+ * <pre>
+ * # chaser
+ * when near 220 do chase 2.6
+ * when always do patrol
+ * </pre>
+ *
+ * Conditions: {@code always}, {@code near N}, {@code far N} (horizontal distance to the player),
+ * {@code every N} (ticks), {@code grounded}, {@code above}, {@code below} (player relative to the enemy).
+ * Actions: {@code patrol}, {@code idle}, {@code chase SPEED}, {@code flee SPEED}, {@code jump STRENGTH},
+ * {@code shoot SPEED}.
+ *
+ * Each tick the first matching movement rule (patrol, idle, chase, flee) decides the horizontal motion;
+ * jump and shoot rules fire whenever their condition holds. Rules are compiled into flat int/float arrays
+ * and evaluated without allocating, and a script can have at most {@link #MAX_RULES} rules so every
+ * enemy costs a bounded amount of work per tick.
+ */
+final class EnemyScript {
+
+    static final int MAX_RULES = 32;
+
+    // Condition opcodes
+    private static final int C_ALWAYS = 0, C_NEAR = 1, C_FAR = 2, C_EVERY = 3, C_GROUNDED = 4, C_ABOVE = 5, C_BELOW = 6;
+    // Action opcodes; movement actions come first so they can be recognized with a single comparison
+    private static final int A_PATROL = 0, A_IDLE = 1, A_CHASE = 2, A_FLEE = 3, A_JUMP = 4, A_SHOOT = 5;
+    private static final int LAST_MOVEMENT = A_FLEE;
+
+    private static final Map<String, EnemyScript> loaded = new ConcurrentHashMap<>();
+
+    // Rule i is stored at [2 * i] (condition) and [2 * i + 1] (action), arguments at the same indices
+    private final int[] code;
+    private final float[] args;
+    private final int rules;
+
+    private EnemyScript(int[] code, float[] args, int rules) {
+        this.code = code;
+        this.args = args;
+        this.rules = rules;
+    }
+
+    /** Loads and compiles the script asset once; later calls share the compiled script. */
+    static EnemyScript load(String name) {
+        return loaded.computeIfAbsent(name, n -> {
+            byte[] source = Assets.read(n);
+            if (source == null) throw new IllegalArgumentException("Enemy script not found: " + n);
+            return compile(n, new String(source, StandardCharsets.UTF_8));
+        });
+    }
+
+    static EnemyScript compile(String name, String source) {
+        int[] code = new int[MAX_RULES * 2];
+        float[] args = new float[MAX_RULES * 2];
+        int rules = 0;
+
+        String[] lines = source.split("\\R");
+        for (int lineNo = 1; lineNo <= lines.length; lineNo++) {
+            String line = lines[lineNo - 1];
+            int comment = line.indexOf('#');
+            if (comment >= 0) line = line.substring(0, comment);
+            line = line.trim();
+            if (line.isEmpty()) continue;
+
+            if (rules == MAX_RULES) throw error(name, lineNo, "more than " + MAX_RULES + " rules");
+
+            String[] t = line.split("\\s+");
+            int pos = 0;
+            if (!t[pos++].equals("when")) throw error(name, lineNo, "rule must start with 'when'");
+
+            int cond = condition(name, lineNo, t, pos);
+            pos++;
+            float condArg = 0;
+            if (cond == C_NEAR || cond == C_FAR || cond == C_EVERY) condArg = number(name, lineNo, t, pos++);
+            if (cond == C_EVERY && condArg < 1) throw error(name, lineNo, "'every' needs a positive tick count");
+
+            if (pos >= t.length || !t[pos++].equals("do")) throw error(name, lineNo, "expected 'do'");
+
+            int action = action(name, lineNo, t, pos);
+            pos++;
+            float actionArg = 0;
+            if (action >= A_CHASE) actionArg = number(name, lineNo, t, pos++);
+
+            if (pos != t.length) throw error(name, lineNo, "unexpected '" + t[pos] + "'");
+
+            code[2 * rules] = cond;
+            args[2 * rules] = condArg;
+            code[2 * rules + 1] = action;
+            args[2 * rules + 1] = actionArg;
+            rules++;
+        }
+        return new EnemyScript(code, args, rules);
+    }
+
+    /** Runs one tick of behaviour for {@code e}; {@code px, py} is the centre of the player. */
+    void run(Main.Enemy e, double px, double py, Main.Projectiles shots) {
+        boolean moved = false;
+        for (int i = 0; i < rules; i++) {
+            int action = code[2 * i + 1];
+            boolean movement = action <= LAST_MOVEMENT;
+            if (movement && moved) continue;
+            if (!test(code[2 * i], args[2 * i], e, px, py)) continue;
+
+            float arg = args[2 * i + 1];
+            switch (action) {
+                case A_PATROL -> e.patrol();
+                case A_CHASE -> e.moveTowards(px, arg);
+                case A_FLEE -> e.moveTowards(px, -arg);
+                case A_JUMP -> e.jump(arg);
+                case A_SHOOT -> shots.fire(e.x + e.w / 2.0, e.y + e.h / 2.0, px < e.x + e.w / 2.0 ? -arg : arg);
+                default -> {
+                    // A_IDLE: stand still
+                }
+            }
+            if (movement) moved = true;
+        }
+        e.applyGravity();
+        e.tick++;
+    }
+
+    private static boolean test(int cond, float arg, Main.Enemy e, double px, double py) {
+        return switch (cond) {
+            case C_NEAR -> Math.abs(px - (e.x + e.w / 2.0)) < arg;
+            case C_FAR -> Math.abs(px - (e.x + e.w / 2.0)) >= arg;
+            case C_EVERY -> e.tick % (int) arg == 0;
+            case C_GROUNDED -> e.isGrounded();
+            case C_ABOVE -> py < e.y;
+            case C_BELOW -> py > e.y + e.h;
+            default -> true;
+        };
+    }
+
+    private static int condition(String name, int lineNo, String[] t, int pos) {
+        if (pos >= t.length) throw error(name, lineNo, "missing condition");
+        return switch (t[pos]) {
+            case "always" -> C_ALWAYS;
+            case "near" -> C_NEAR;
+            case "far" -> C_FAR;
+            case "every" -> C_EVERY;
+            case "grounded" -> C_GROUNDED;
+            case "above" -> C_ABOVE;
+            case "below" -> C_BELOW;
+            default -> throw error(name, lineNo, "unknown condition '" + t[pos] + "'");
+        };
+    }
+
+    private static int action(String name, int lineNo, String[] t, int pos) {
+        if (pos >= t.length) throw error(name, lineNo, "missing action");
+        return switch (t[pos]) {
+            case "patrol" -> A_PATROL;
+            case "idle" -> A_IDLE;
+            case "chase" -> A_CHASE;
+            case "flee" -> A_FLEE;
+            case "jump" -> A_JUMP;
+            case "shoot" -> A_SHOOT;
+            default -> throw error(name, lineNo, "unknown action '" + t[pos] + "'");
+        };
+    }
+
+    private static float number(String name, int lineNo, String[] t, int pos) {
+        if (pos >= t.length) throw error(name, lineNo, "missing number after '" + t[pos - 1] + "'");
+        try {
+            return Float.parseFloat(t[pos]);
+        } catch (NumberFormatException ex) {
+            throw error(name, lineNo, "'" + t[pos] + "' is not a number");
+        }
+    }
+
+    private static IllegalArgumentException error(String name, int lineNo, String message) {
+        return new IllegalArgumentException(name + ":" + lineNo + ": " + message);
+    }
+}
@@ -0,0 +1,307 @@
+package org.example;
+
+import java.awt.*;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Offline solvability check for the levels. Runs a breadth-first search over the player's states using
+ * {@link Main#stepPlayer}, i.e. the real physics, and reports per level whether the flag can be reached,
+ * the minimum number of ticks to reach it and a difficulty score.
+ *
+ * <p>States are discretized to whole pixels for x/y and steps of 0.2 for the vertical speed, which is
+ * what makes the search finite; each discretized state is expanded once, from the exact position that
+ * reached it first in frontier order, so every run gives the same result. Enemies are ignored: the question
+ * is whether the geometry can be completed at all.
+ *
+ * <p>Each BFS layer is expanded in chunks on the common fork/join pool; the chunks only read the visited
+ * table, and their successors are then merged into it in frontier order on one thread. The table is an
+ * open-addressing set of primitive longs that also records every state's parent, so the fastest route
+ * can be rebuilt afterwards.
+ *
+ * <p>Run with {@code java -cp target/jumpcube.jar org.example.LevelAnalyzer [level...]} or
+ * {@code mvn -Panalyze-levels verify}.
+ */
+public final class LevelAnalyzer {
+
+    private static final int PLAYER_W = 36, PLAYER_H = 48;
+    // Give up after a minute of game time
+    private static final int MAX_TICKS = 60 * 60;
+    // Initial size of the visited table; the levels need 16-64k states and the table doubles when required
+    private static final int INITIAL_TABLE_CAPACITY = 1 << 16;
+    private static final int CHUNK = 512;
+
+    // Inputs tried from every state: {left, right, jump}
+    private static final boolean[][] ACTIONS = {
+            {false, false, false}, {true, false, false}, {false, true, false},
+            {false, false, true}, {true, false, true}, {false, true, true}
+    };
+
+    /** Result for one level; {@code minTicks} is -1 when the flag is unreachable. */
+    record Report(int level, int minTicks, int jumps, int narrowestPlatform, long states) {
+
+        boolean reachable() {
+            return minTicks >= 0;
+        }
+
+        /**
+         * Seconds needed + half a point per required jump + a penalty that grows as the narrowest
+         * platform stood on along the fastest route shrinks (100 / width, so a 70 px ledge adds ~1.4).
+         */
+        double difficulty() {
+            if (!reachable()) return Double.NaN;
+            return minTicks / 60.0 + jumps * 0.5 + 100.0 / narrowestPlatform;
+        }
+    }
+
+    private LevelAnalyzer() {
+    }
+
+    public static void main(String[] args) {
+        int[] levels = args.length == 0
+                ? IntStream.rangeClosed(1, 10).toArray()
+                : Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+
+        boolean allReachable = true;
+        for (int idx : levels) {
+            long start = System.nanoTime();
+            Report r = analyze(idx, Main.createLevel(idx));
+            long ms = (System.nanoTime() - start) / 1_000_000;
+            if (r.reachable()) {
+                System.out.printf("Level %2d: reachable    min %4d ticks (%5.2f s)  jumps %2d  narrowest %3d px"
+                                + "  difficulty %5.2f  states %,9d  (%d ms)%n",
+                        idx, r.minTicks(), r.minTicks() / 60.0, r.jumps(), r.narrowestPlatform(),
+                        r.difficulty(), r.states(), ms);
+            } else {
+                allReachable = false;
+                System.out.printf("Level %2d: UNREACHABLE within %d ticks  states %,9d  (%d ms)%n",
+                        idx, MAX_TICKS, r.states(), ms);
+            }
+        }
+        if (!allReachable) System.exit(1);
+    }
+
+    static Report analyze(int idx, Main.LevelBase level) {
+        VisitedTable visited = new VisitedTable(INITIAL_TABLE_CAPACITY);
+
+        long startKey = key(level.playerStartX, level.playerStartY, 0, false);
+        visited.insert(startKey, -1);
+        Frontier frontier = new Frontier(1);
+        frontier.add(level.playerStartX, level.playerStartY, 0, false, startKey, -1, false);
+
+        for (int tick = 1; tick <= MAX_TICKS && frontier.size > 0; tick++) {
+            Frontier current = frontier;
+            int chunks = (current.size + CHUNK - 1) / CHUNK;
+            List<Frontier> parts = IntStream.range(0, chunks).parallel()
+                    .mapToObj(c -> expand(current, c * CHUNK, Math.min(current.size, (c + 1) * CHUNK), level, visited))
+                    .toList();
+
+            // Sequential merge in frontier order: the first successor to reach a state becomes its representative
+            frontier = new Frontier(Math.max(16, current.size));
+            for (Frontier part : parts) {
+                for (int i = 0; i < part.size; i++) {
+                    if (!visited.insert(part.key[i], part.link[i])) continue;
+                    if (part.goal[i]) return route(idx, tick, part.key[i], level, visited);
+                    frontier.add(part.x[i], part.y[i], part.vy[i], part.canJump[i], part.key[i], part.link[i], false);
+                }
+            }
+        }
+        return new Report(idx, -1, 0, 0, visited.size());
+    }
+
+    private static Frontier expand(Frontier from, int begin, int end, Main.LevelBase level, VisitedTable visited) {
+        Frontier next = new Frontier(Math.max(16, (end - begin) * 2));
+        Main.Player p = new Main.Player(0, 0, PLAYER_W, PLAYER_H);
+        Rectangle flag = level.flag;
+
+        for (int i = begin; i < end; i++) {
+            long parentKey = from.key[i];
+            for (int a = 0; a < ACTIONS.length; a++) {
+                boolean jump = ACTIONS[a][2];
+                if (jump && !from.canJump[i]) continue; // same outcome as the matching non-jump action
+
+                p.setX(from.x[i]);
+                p.setY(from.y[i]);
+                p.setVy(from.vy[i]);
+                p.setCanJump(from.canJump[i]);
+                Main.stepPlayer(p, level.platforms, ACTIONS[a][0], ACTIONS[a][1], jump);
+
+                int px = p.getX(), py = p.getY();
+                if (py > Main.HEIGHT + 200) continue; // fell out of the level
+
+                long k = key(px, py, p.getVy(), p.canJump());
+                if (visited.contains(k)) continue; // reached in an earlier layer
+
+                boolean goal = flag != null && px < flag.x + flag.width && px + PLAYER_W > flag.x
+                        && py < flag.y + flag.height && py + PLAYER_H > flag.y;
+                next.add(p.getExactX(), p.getExactY(), p.getVy(), p.canJump(), k, (parentKey << 3) | a, goal);
+            }
+        }
+        return next;
+    }
+
+    // Walks the parent links back from the goal to count jumps and find the narrowest platform used
+    private static Report route(int idx, int ticks, long goal, Main.LevelBase level, VisitedTable visited) {
+        int jumps = 0;
+        int narrowest = Integer.MAX_VALUE;
+        long k = goal;
+        while (true) {
+            if (canJumpOf(k)) narrowest = Math.min(narrowest, platformWidthUnder(xOf(k), yOf(k), level));
+            long link = visited.parentOf(k);
+            if (link < 0) break;
+            long parent = link >>> 3;
+            int action = (int) (link & 7);
+            if (ACTIONS[action][2] && canJumpOf(parent)) jumps++;
+            k = parent;
+        }
+        if (narrowest == Integer.MAX_VALUE) narrowest = Main.WIDTH;
+        return new Report(idx, ticks, jumps, narrowest, visited.size());
+    }
+
+    private static int platformWidthUnder(int x, int y, Main.LevelBase level) {
+        int best = Integer.MAX_VALUE;
+        for (Main.Platform plat : level.platforms) {
+            if (plat.y == y + PLAYER_H && x < plat.x + plat.width && x + PLAYER_W > plat.x) {
+                best = Math.min(best, plat.width);
+            }
+        }
+        return best;
+    }
+
+    // Key layout: canJump (1 bit) | vy bucket (8 bits) | y + 1024 (11 bits) | x (10 bits)
+    private static long key(double x, double y, double vy, boolean canJump) {
+        long kx = Math.max(0, Math.min(1023, (int) x));
+        long ky = Math.max(0, Math.min(2047, (int) y + 1024));
+        long kv = Math.max(0, Math.min(255, Math.round(vy * 5) + 128));
+        return (canJump ? 1L << 29 : 0) | kv << 21 | ky << 10 | kx;
+    }
+
+    private static int xOf(long key) {
+        return (int) (key & 1023);
+    }
+
+    private static int yOf(long key) {
+        return (int) ((key >>> 10) & 2047) - 1024;
+    }
+
+    private static boolean canJumpOf(long key) {
+        return (key & (1L << 29)) != 0;
+    }
+
+    // Player states of one BFS layer (or the successors found by one chunk), in parallel primitive arrays:
+    // the exact state, its discretized key, the link to its parent ((parent key << 3) | action) and
+    // whether it touches the flag
+    private static final class Frontier {
+        double[] x, y, vy;
+        boolean[] canJump, goal;
+        long[] key, link;
+        int size;
+
+        Frontier(int capacity) {
+            x = new double[capacity];
+            y = new double[capacity];
+            vy = new double[capacity];
+            canJump = new boolean[capacity];
+            goal = new boolean[capacity];
+            key = new long[capacity];
+            link = new long[capacity];
+        }
+
+        void add(double nx, double ny, double nvy, boolean cj, long k, long parentLink, boolean atGoal) {
+            if (size == x.length) {
+                int cap = size * 2;
+                x = Arrays.copyOf(x, cap);
+                y = Arrays.copyOf(y, cap);
+                vy = Arrays.copyOf(vy, cap);
+                canJump = Arrays.copyOf(canJump, cap);
+                goal = Arrays.copyOf(goal, cap);
+                key = Arrays.copyOf(key, cap);
+                link = Arrays.copyOf(link, cap);
+            }
+            x[size] = nx;
+            y[size] = ny;
+            vy[size] = nvy;
+            canJump[size] = cj;
+            goal[size] = atGoal;
+            key[size] = k;
+            link[size] = parentLink;
+            size++;
+        }
+    }
+
+    /**
+     * Set of state keys (non-negative longs) with linear probing, plus the parent link of every key.
+     * Only written by the merge, which runs on one thread between the parallel expansions; those only
+     * call {@link #contains}. Doubles its capacity whenever it gets half full.
+     */
+    private static final class VisitedTable {
+        private static final long EMPTY = -1;
+
+        private long[] keys;
+        private long[] parents;
+        private int mask;
+        private int size;
+
+        VisitedTable(int capacity) {
+            allocate(capacity);
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[capacity];
+            parents = new long[capacity];
+            mask = capacity - 1;
+            Arrays.fill(keys, EMPTY);
+        }
+
+        // Returns false if the key was already present
+        boolean insert(long key, long parent) {
+            if (size * 2 >= mask + 1) grow();
+            int i = slot(key);
+            while (keys[i] != EMPTY) {
+                if (keys[i] == key) return false;
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            parents[i] = parent;
+            size++;
+            return true;
+        }
+
+        boolean contains(long key) {
+            int i = slot(key);
+            while (keys[i] != EMPTY) {
+                if (keys[i] == key) return true;
+                i = (i + 1) & mask;
+            }
+            return false;
+        }
+
+        long parentOf(long key) {
+            int i = slot(key);
+            while (keys[i] != EMPTY) {
+                if (keys[i] == key) return parents[i];
+                i = (i + 1) & mask;
+            }
+            throw new IllegalArgumentException("Unknown state " + key);
+        }
+
+        long size() {
+            return size;
+        }
+
+        private void grow() {
+            if (mask + 1 >= 1 << 30) throw new IllegalStateException("Visited table too large (" + size + " states)");
+            long[] oldKeys = keys, oldParents = parents;
+            allocate(keys.length * 2);
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) insert(oldKeys[i], oldParents[i]);
+            }
+        }
+
+        private int slot(long key) {
+            return (int) ((key * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+        }
+    }
+}
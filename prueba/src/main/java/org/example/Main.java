@@ -4,21 +4,48 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import javax.sound.sampled.*;
-import java.io.IOException;
-import java.net.URL;
+import java.io.BufferedInputStream;
+import java.io.InputStream;
 
-public class Main extends JPanel implements ActionListener, KeyListener {
+public class Main extends JPanel implements KeyListener {
 
     // Window
     static final int WIDTH = 900;
     static final int HEIGHT = 640;
 
-    // Game loop
-    private final Timer timer;
+    // Fonts are created once instead of on every frame
+    static final Font HUD_FONT = new Font("SansSerif", Font.BOLD, 18);
+    static final Font BANNER_FONT = new Font("SansSerif", Font.BOLD, 36);
+
+    // Game loop: the simulation runs on its own thread and hands frames to the EDT through snapshots,
+    // so painting and physics overlap and a slow paint never delays a tick
+    private final ScheduledExecutorService simulation;
     private final int FPS = 60;
+    private final RenderSnapshot.Exchange frames = new RenderSnapshot.Exchange();
+    private long ticks = 0;
+
+    // Sprites (render thread)
+    private final SpriteAtlas sprites = SpriteAtlas.load("common/atlas");
+    private final SpriteAtlas.Animation playerIdle = sprites.animation("player_idle");
+    private final SpriteAtlas.Animation playerRun = sprites.animation("player_run");
+    private final SpriteAtlas.Animation playerJump = sprites.animation("player_jump");
+    private final SpriteAtlas.Animation enemyWalk = sprites.animation("enemy_walk");
+    private final SpriteAtlas.Animation flagWave = sprites.animation("flag");
+    private final SpriteAtlas.Animation shotAnim = sprites.animation("shot");
+    private final SpriteBatch batch = new SpriteBatch(WIDTH, HEIGHT);
 
     // Player
     private Player player;
@@ -42,14 +69,24 @@ public class Main extends JPanel implements ActionListener, KeyListener {
 
     private State state = State.PLAYING;
 
-    // Input
-    private boolean leftPressed = false;
-    private boolean rightPressed = false;
-    private boolean jumpPressed = false;
-    private boolean downPressed = false;
+    // Input (written on the EDT, read by the simulation thread). One-shot flags are consumed with
+    // getAndSet(false) so a key press that lands between the read and the clear is not lost.
+    private volatile boolean leftPressed = false;
+    private volatile boolean rightPressed = false;
+    private final AtomicBoolean jumpPressed = new AtomicBoolean();
+    private volatile boolean downPressed = false;
+    private final AtomicBoolean restartRequested = new AtomicBoolean();
+    private boolean facingLeft = false;
+    // Ticks since resolvePlatformCollisions last landed the player. While standing it lands every other
+    // tick (gravity needs two ticks to move the player a whole pixel into the platform), so the player
+    // counts as airborne only after two ticks without landing.
+    private int ticksSinceLanded = 2;
 
     // Sounds
-    private Clip bgMusic;
+    private SoundManager.Music bgMusic;
+
+    // Startup tracking
+    private boolean firstFrameRendered = false;
 
     // Constructor
     public Main() {
@@ -58,12 +95,16 @@ public class Main extends JPanel implements ActionListener, KeyListener {
         setFocusable(true);
         addKeyListener(this);
 
-        // Initialize game state before creating timer
+        // Initialize game state and the first frame before starting the simulation
         initGame();
+        publishSnapshot();
 
-        // Initialize Swing timer
-        timer = new Timer(1000 / FPS, this);
-        timer.start();
+        simulation = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "jumpcube-simulation");
+            t.setDaemon(true);
+            return t;
+        });
+        simulation.scheduleAtFixedRate(this::tick, 1_000_000_000L / FPS, 1_000_000_000L / FPS, TimeUnit.NANOSECONDS);
     }
 
     // Initialize or restart whole game
@@ -79,55 +120,66 @@ public class Main extends JPanel implements ActionListener, KeyListener {
 
         // Start main theme
         if (bgMusic != null && bgMusic.isRunning()) bgMusic.stop();
-        bgMusic = SoundManager.playLoop("mainTheme.wav", -15.0f);
+        bgMusic = SoundManager.playLoop("common/mainTheme.wav", -15.0f);
     }
 
     // Load a level based on index
     private void loadLevel(int idx) {
+        // Only the shared pack and the one for this level stay open
+        Assets.retainOnly("common", "level" + idx);
+        currentLevel = createLevel(idx);
+        player.setX(currentLevel.playerStartX);
+        player.setY(currentLevel.playerStartY);
+        player.resetVelocity();
+        ticksSinceLanded = 2;
+        state = State.PLAYING;
+    }
+
+    static LevelBase createLevel(int idx) {
         switch (idx) {
             case 1:
-                currentLevel = new Level1();
-                break;
+                return new Level1();
             case 2:
-                currentLevel = new Level2();
-                break;
+                return new Level2();
             case 3:
-                currentLevel = new Level3();
-                break;
+                return new Level3();
             case 4:
-                currentLevel = new Level4();
-                break;
+                return new Level4();
             case 5:
-                currentLevel = new Level5();
-                break;
+                return new Level5();
             case 6:
-                currentLevel = new Level6();
-                break;
+                return new Level6();
             case 7:
-                currentLevel = new Level7();
-                break;
+                return new Level7();
             case 8:
-                currentLevel = new Level8();
-                break;
+                return new Level8();
             case 9:
-                currentLevel = new Level9();
-                break;
+                return new Level9();
             case 10:
-                currentLevel = new Level10();
-                break;
+                return new Level10();
             default:
-                currentLevel = new Level1();
-                break;
+                return new Level1();
         }
-        player.setX(currentLevel.playerStartX);
-        player.setY(currentLevel.playerStartY);
-        player.resetVelocity();
-        state = State.PLAYING;
     }
 
-    // Main loop
-    @Override
-    public void actionPerformed(ActionEvent e) {
+    // Main loop, runs on the simulation thread
+    private void tick() {
+        try {
+            ticks++;
+            update();
+            publishSnapshot();
+        } catch (RuntimeException ex) {
+            // An uncaught exception would silently cancel the scheduled task
+            ex.printStackTrace();
+        }
+        repaint();
+    }
+
+    private void update() {
+        if (restartRequested.getAndSet(false)) {
+            initGame();
+        }
+
         if (state == State.PLAYING) {
             gameUpdate();
         } else if (state == State.LEVEL_TRANSITION) {
@@ -144,30 +196,83 @@ public class Main extends JPanel implements ActionListener, KeyListener {
             ft.update();
             if (ft.isFinished()) it.remove();
         }
-
-        repaint();
     }
 
-    private void gameUpdate() {
-        if (leftPressed && !rightPressed) player.moveLeft();
-        else if (rightPressed && !leftPressed) player.moveRight();
-        else player.stopX();
+    // Copies what drawScene needs into the back snapshot and hands it to the render thread
+    private void publishSnapshot() {
+        RenderSnapshot s = frames.back();
+        s.level = currentLevel;
+        s.tick = ticks;
 
-        if (jumpPressed) {
-            player.jump();
-            jumpPressed = false;
+        Rectangle pr = player.getBounds();
+        s.playerX = pr.x;
+        s.playerY = pr.y;
+        s.playerW = pr.width;
+        s.playerH = pr.height;
+        s.playerRunning = player.getVx() != 0;
+        // Moving up means the player just jumped, even on the tick it left the platform
+        s.playerAirborne = ticksSinceLanded > 1 || player.getVy() < 0;
+        s.playerFacingLeft = facingLeft;
+
+        s.enemyCount = 0;
+        s.shotCount = 0;
+        if (currentLevel != null) {
+            List<Enemy> enemies = currentLevel.enemies;
+            s.ensureEnemyCapacity(enemies.size());
+            for (int i = 0; i < enemies.size(); i++) {
+                Enemy en = enemies.get(i);
+                s.enemyX[i] = (int) en.x;
+                s.enemyY[i] = (int) en.y;
+                s.enemyW[i] = en.w;
+                s.enemyH[i] = en.h;
+                s.enemyFacingLeft[i] = en.dir < 0;
+            }
+            s.enemyCount = enemies.size();
+
+            Projectiles shots = currentLevel.shots;
+            for (int i = 0; i < Projectiles.CAPACITY; i++) {
+                if (!shots.active[i]) continue;
+                s.shotX[s.shotCount] = (int) shots.x[i];
+                s.shotY[s.shotCount] = (int) shots.y[i];
+                s.shotCount++;
+            }
         }
 
-        player.applyGravity();
-        player.updatePosition();
+        s.ensureTextCapacity(floatingTexts.size());
+        for (int i = 0; i < floatingTexts.size(); i++) {
+            FloatingText ft = floatingTexts.get(i);
+            s.texts[i] = ft.text;
+            s.textX[i] = (int) ft.x;
+            s.textY[i] = (int) ft.y;
+            s.textAlpha[i] = ft.alpha();
+        }
+        s.textCount = floatingTexts.size();
 
-        handlePlatformCollisions();
+        s.score = totalScore;
+        s.lives = lives;
+        s.levelIndex = Math.min(currentLevelIndex, MAX_LEVEL);
+        s.finished = state == State.FINISHED;
+        s.gameOver = state == State.GAME_OVER;
 
-        if (currentLevel != null) currentLevel.updateEnemy();
+        frames.publish();
+    }
 
-        if (currentLevel != null && currentLevel.enemy != null
-                && player.getBounds().intersects(currentLevel.enemy.getBounds())) {
-            loseLifeAndRespawn("Hit by enemy!");
+    private void gameUpdate() {
+        boolean jump = jumpPressed.getAndSet(false);
+        stepPlayer(player, currentLevel.platforms, leftPressed, rightPressed, jump);
+        ticksSinceLanded = player.canJump() ? 0 : Math.min(ticksSinceLanded + 1, 2);
+        if (player.getVx() < 0) facingLeft = true;
+        else if (player.getVx() > 0) facingLeft = false;
+
+        if (currentLevel != null) {
+            Rectangle pr = player.getBounds();
+            currentLevel.updateEnemies(pr.getCenterX(), pr.getCenterY());
+
+            if (currentLevel.hitsEnemy(pr)) {
+                loseLifeAndRespawn("Hit by enemy!");
+            } else if (currentLevel.shots.hits(pr)) {
+                loseLifeAndRespawn("Shot by enemy!");
+            }
         }
 
         if (player.getY() > HEIGHT + 200) {
@@ -180,13 +285,27 @@ public class Main extends JPanel implements ActionListener, KeyListener {
         }
     }
 
-    private void handlePlatformCollisions() {
+    // One tick of player physics for the given input. Static so the startup warm-up and the
+    // LevelAnalyzer run exactly the same code as the game.
+    static void stepPlayer(Player player, List<Platform> platforms, boolean left, boolean right, boolean jump) {
+        if (left && !right) player.moveLeft();
+        else if (right && !left) player.moveRight();
+        else player.stopX();
+
+        if (jump) player.jump();
+
+        player.applyGravity();
+        player.updatePosition();
+
+        resolvePlatformCollisions(player, platforms);
+    }
+
+    // Pushes the player out of any platform it overlaps and keeps it inside the window
+    static void resolvePlatformCollisions(Player player, List<Platform> platforms) {
         Rectangle pRect = player.getBounds();
         boolean onAnyPlatform = false;
 
-        if (currentLevel == null) return;
-
-        for (Platform plat : currentLevel.platforms) {
+        for (Platform plat : platforms) {
             Rectangle r = plat.getBounds();
             if (pRect.intersects(r)) {
                 Rectangle inter = pRect.intersection(r);
@@ -215,7 +334,7 @@ public class Main extends JPanel implements ActionListener, KeyListener {
     }
 
     private void loseLifeAndRespawn(String reason) {
-        SoundManager.playSound("death.wav");
+        SoundManager.playSound("common/death.wav");
         lives--;
         if (lives <= 0) {
             state = State.GAME_OVER;
@@ -224,7 +343,7 @@ public class Main extends JPanel implements ActionListener, KeyListener {
                         reason + " You have no lives left. Game Over.\nRestart game?",
                         "Game Over",
                         JOptionPane.YES_NO_OPTION);
-                if (choice == JOptionPane.YES_OPTION) initGame();
+                if (choice == JOptionPane.YES_OPTION) restartRequested.set(true);
                 else System.exit(0);
             });
         } else {
@@ -232,11 +351,13 @@ public class Main extends JPanel implements ActionListener, KeyListener {
             player.setX(currentLevel.playerStartX);
             player.setY(currentLevel.playerStartY);
             player.resetVelocity();
+            ticksSinceLanded = 2;
+            currentLevel.shots.clear();
         }
     }
 
     private void levelCompleted() {
-        SoundManager.playSound("flagPole.wav");
+        SoundManager.playSound("common/flagPole.wav");
         int levelPoints = currentLevelIndex * 5;
         boolean hadFullLives = (lives == MAX_LIVES);
         totalScore += levelPoints;
@@ -264,19 +385,20 @@ public class Main extends JPanel implements ActionListener, KeyListener {
     private void finishGame() {
         if (bgMusic != null && bgMusic.isRunning()) bgMusic.stop();
         state = State.FINISHED;
+        int finalScore = totalScore;
         SwingUtilities.invokeLater(() -> {
             String name = JOptionPane.showInputDialog(this,
-                    "You finished all levels!\nYour score: " + totalScore + "\nEnter your name:",
+                    "You finished all levels!\nYour score: " + finalScore + "\nEnter your name:",
                     "All Levels Completed",
                     JOptionPane.PLAIN_MESSAGE);
             if (name == null || name.trim().isEmpty()) name = "Anonymous";
             JOptionPane.showMessageDialog(this,
-                    "Thanks for playing, " + name + "!\nFinal score: " + totalScore);
+                    "Thanks for playing, " + name + "!\nFinal score: " + finalScore);
             int choice = JOptionPane.showConfirmDialog(this,
                     "Play again?",
                     "Play again?",
                     JOptionPane.YES_NO_OPTION);
-            if (choice == JOptionPane.YES_OPTION) initGame();
+            if (choice == JOptionPane.YES_OPTION) restartRequested.set(true);
             else System.exit(0);
         });
     }
@@ -284,47 +406,57 @@ public class Main extends JPanel implements ActionListener, KeyListener {
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        drawScene((Graphics2D) g);
+        drawScene((Graphics2D) g, frames.latest());
+        if (!firstFrameRendered) {
+            firstFrameRendered = true;
+            Startup.firstFrameRendered();
+        }
     }
 
-    private void drawScene(Graphics2D g2) {
+    // Runs on the EDT and only reads the snapshot, never the live game state
+    private void drawScene(Graphics2D g2, RenderSnapshot s) {
         g2.setColor(new Color(135, 206, 235));
         g2.fillRect(0, 0, WIDTH, HEIGHT);
 
-        if (currentLevel != null) {
+        if (s.level != null) {
             g2.setColor(new Color(120, 72, 18));
-            for (Platform p : currentLevel.platforms) g2.fillRect(p.x, p.y, p.width, p.height);
+            for (Platform p : s.level.platforms) g2.fillRect(p.x, p.y, p.width, p.height);
 
-            if (currentLevel.flag != null) {
-                g2.setColor(new Color(255, 215, 0));
-                g2.fillRect(currentLevel.flag.x, currentLevel.flag.y, currentLevel.flag.width, currentLevel.flag.height);
-            }
+            Rectangle flag = s.level.flag;
+            if (flag != null) batch.draw(sprites, flagWave, s.tick, flag.x, flag.y, flag.width, flag.height, false);
+        }
 
-            if (currentLevel.enemy != null) {
-                g2.setColor(new Color(200, 0, 0));
-                Rectangle er = currentLevel.enemy.getBounds();
-                g2.fillRect(er.x, er.y, er.width, er.height);
-            }
+        for (int i = 0; i < s.enemyCount; i++) {
+            batch.draw(sprites, enemyWalk, s.tick, s.enemyX[i], s.enemyY[i], s.enemyW[i], s.enemyH[i], s.enemyFacingLeft[i]);
+        }
+        for (int i = 0; i < s.shotCount; i++) {
+            batch.draw(sprites, shotAnim, s.tick, s.shotX[i], s.shotY[i], Projectiles.SIZE, Projectiles.SIZE, false);
         }
 
-        g2.setColor(Color.BLUE);
-        Rectangle pr = player.getBounds();
-        g2.fillRect(pr.x, pr.y, pr.width, pr.height);
+        SpriteAtlas.Animation playerAnim = s.playerAirborne ? playerJump : s.playerRunning ? playerRun : playerIdle;
+        batch.draw(sprites, playerAnim, s.tick, s.playerX, s.playerY, s.playerW, s.playerH, s.playerFacingLeft);
 
-        g2.setColor(Color.BLACK);
-        g2.setFont(new Font("SansSerif", Font.BOLD, 18));
-        g2.drawString("Score: " + totalScore, 18, 26);
-        g2.drawString("Lives: " + lives, WIDTH - 110, 26);
-        g2.drawString("Level: " + Math.min(currentLevelIndex, MAX_LEVEL) + " / " + MAX_LEVEL, WIDTH / 2 - 60, 26);
+        batch.flush(g2, getGraphicsConfiguration());
 
-        for (FloatingText ft : floatingTexts) ft.draw(g2);
+        g2.setColor(Color.BLACK);
+        g2.setFont(HUD_FONT);
+        g2.drawString("Score: " + s.score, 18, 26);
+        g2.drawString("Lives: " + s.lives, WIDTH - 110, 26);
+        g2.drawString("Level: " + s.levelIndex + " / " + MAX_LEVEL, WIDTH / 2 - 60, 26);
+
+        Composite old = g2.getComposite();
+        for (int i = 0; i < s.textCount; i++) {
+            g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, s.textAlpha[i]));
+            g2.drawString(s.texts[i], s.textX[i], s.textY[i]);
+        }
+        g2.setComposite(old);
 
-        if (state == State.FINISHED) {
-            g2.setFont(new Font("SansSerif", Font.BOLD, 36));
+        if (s.finished) {
+            g2.setFont(BANNER_FONT);
             g2.setColor(new Color(0, 120, 0));
             drawCenteredString(g2, "ALL LEVELS COMPLETED!", WIDTH, HEIGHT);
-        } else if (state == State.GAME_OVER) {
-            g2.setFont(new Font("SansSerif", Font.BOLD, 36));
+        } else if (s.gameOver) {
+            g2.setFont(BANNER_FONT);
             g2.setColor(new Color(160, 0, 0));
             drawCenteredString(g2, "GAME OVER", WIDTH, HEIGHT);
         }
@@ -342,9 +474,9 @@ public class Main extends JPanel implements ActionListener, KeyListener {
         int kc = e.getKeyCode();
         if (kc == KeyEvent.VK_A) leftPressed = true;
         if (kc == KeyEvent.VK_D) rightPressed = true;
-        if (kc == KeyEvent.VK_W) jumpPressed = true;
+        if (kc == KeyEvent.VK_W) jumpPressed.set(true);
         if (kc == KeyEvent.VK_S) downPressed = true;
-        if (kc == KeyEvent.VK_R) initGame();
+        if (kc == KeyEvent.VK_R) restartRequested.set(true);
         if (kc == KeyEvent.VK_ESCAPE) System.exit(0);
     }
 
@@ -360,6 +492,19 @@ public class Main extends JPanel implements ActionListener, KeyListener {
     }
 
     public static void main(String[] args) {
+        Startup.markMainEntry();
+        if (args.length > 0 && args[0].equals("--cds-training")) {
+            Startup.runTraining();
+            return;
+        }
+        if (Boolean.getBoolean(Startup.BENCHMARK_PROPERTY) && GraphicsEnvironment.isHeadless()) {
+            Startup.runHeadlessBenchmark();
+            return;
+        }
+
+        // Decode sounds and warm up fonts off the EDT, while the window is built (or after the first frame on one core)
+        Startup.warmUpAsync();
+
         SwingUtilities.invokeLater(() -> {
             JFrame frame = new JFrame("Platformer - 10 Levels");
             Main gamePanel = new Main();
@@ -430,6 +575,14 @@ public class Main extends JPanel implements ActionListener, KeyListener {
             return (int) y;
         }
 
+        public double getExactX() {
+            return x;
+        }
+
+        public double getExactY() {
+            return y;
+        }
+
         public int getW() {
             return w;
         }
@@ -466,6 +619,10 @@ public class Main extends JPanel implements ActionListener, KeyListener {
             canJump = b;
         }
 
+        public boolean canJump() {
+            return canJump;
+        }
+
         public void resetVelocity() {
             vx = 0;
             vy = 0;
@@ -488,11 +645,18 @@ public class Main extends JPanel implements ActionListener, KeyListener {
     }
 
     static class Enemy {
+        static final double GRAVITY = 0.6;
+
         double x, y;
         int w, h;
         double leftBound, rightBound, speed;
         int dir = 1;
 
+        // Scripted behaviour; null means the plain patrol between leftBound and rightBound
+        EnemyScript script;
+        double groundY, vy = 0;
+        int tick = 0;
+
         public Enemy(double x, double y, int w, int h, double left, double right, double speed) {
             this.x = x;
             this.y = y;
@@ -501,9 +665,21 @@ public class Main extends JPanel implements ActionListener, KeyListener {
             this.leftBound = left;
             this.rightBound = right;
             this.speed = speed;
+            this.groundY = y;
         }
 
-        public void update() {
+        public Enemy(double x, double y, int w, int h, double left, double right, double speed, String script) {
+            this(x, y, w, h, left, right, speed);
+            this.script = EnemyScript.load(script);
+        }
+
+        // targetX/targetY: centre of the player
+        public void update(double targetX, double targetY, Projectiles shots) {
+            if (script == null) patrol();
+            else script.run(this, targetX, targetY, shots);
+        }
+
+        public void patrol() {
             x += dir * speed;
             if (x < leftBound) {
                 x = leftBound;
@@ -514,11 +690,90 @@ public class Main extends JPanel implements ActionListener, KeyListener {
             }
         }
 
+        // Moves horizontally towards targetX (away from it if s is negative) without leaving the bounds
+        public void moveTowards(double targetX, double s) {
+            double centre = x + w / 2.0;
+            double distance = Math.abs(targetX - centre);
+            if (distance < 1) return;
+            dir = targetX > centre ? 1 : -1;
+            // A chase step never passes the target, otherwise the enemy overshoots and turns every tick
+            x += dir * (s > 0 ? Math.min(s, distance) : s);
+            if (x < leftBound) x = leftBound;
+            else if (x + w > rightBound) x = rightBound - w;
+        }
+
+        public void jump(double strength) {
+            if (isGrounded()) vy = -strength;
+        }
+
+        public boolean isGrounded() {
+            return y >= groundY && vy >= 0;
+        }
+
+        // Enemies only jump straight up from their own platform, so landing is just returning to groundY
+        public void applyGravity() {
+            if (isGrounded()) return;
+            vy += GRAVITY;
+            y += vy;
+            if (y >= groundY) {
+                y = groundY;
+                vy = 0;
+            }
+        }
+
         public Rectangle getBounds() {
             return new Rectangle((int) x, (int) y, w, h);
         }
     }
 
+    // Fixed pool of enemy bullets stored in parallel arrays so firing and moving them never allocates
+    static class Projectiles {
+        static final int CAPACITY = 256;
+        static final int SIZE = 8;
+
+        final double[] x = new double[CAPACITY];
+        final double[] y = new double[CAPACITY];
+        final double[] vx = new double[CAPACITY];
+        final boolean[] active = new boolean[CAPACITY];
+        private int next = 0;
+
+        // (cx, cy) is the centre of the bullet; when the pool is full the shot is dropped
+        public void fire(double cx, double cy, double speed) {
+            for (int n = 0; n < CAPACITY; n++) {
+                int i = (next + n) % CAPACITY;
+                if (!active[i]) {
+                    x[i] = cx - SIZE / 2.0;
+                    y[i] = cy - SIZE / 2.0;
+                    vx[i] = speed;
+                    active[i] = true;
+                    next = (i + 1) % CAPACITY;
+                    return;
+                }
+            }
+        }
+
+        public void update() {
+            for (int i = 0; i < CAPACITY; i++) {
+                if (!active[i]) continue;
+                x[i] += vx[i];
+                if (x[i] + SIZE < 0 || x[i] > WIDTH) active[i] = false;
+            }
+        }
+
+        public boolean hits(Rectangle r) {
+            for (int i = 0; i < CAPACITY; i++) {
+                if (active[i] && x[i] < r.x + r.width && x[i] + SIZE > r.x && y[i] < r.y + r.height && y[i] + SIZE > r.y) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public void clear() {
+            Arrays.fill(active, false);
+        }
+    }
+
     static class FloatingText {
         String text;
         double x, y;
@@ -540,14 +795,8 @@ public class Main extends JPanel implements ActionListener, KeyListener {
             return System.currentTimeMillis() - startTime > durationMs;
         }
 
-        public void draw(Graphics2D g2) {
-            float alpha = Math.max(0, 1 - (System.currentTimeMillis() - startTime) / (float) durationMs);
-            Composite old = g2.getComposite();
-            g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
-            g2.setFont(new Font("SansSerif", Font.BOLD, 18));
-            g2.setColor(Color.BLACK);
-            g2.drawString(text, (int) x, (int) y);
-            g2.setComposite(old);
+        public float alpha() {
+            return Math.max(0, 1 - (System.currentTimeMillis() - startTime) / (float) durationMs);
         }
     }
 
@@ -557,13 +806,24 @@ public class Main extends JPanel implements ActionListener, KeyListener {
 
     static abstract class LevelBase {
         List<Platform> platforms = new ArrayList<>();
-        Enemy enemy;
+        List<Enemy> enemies = new ArrayList<>();
+        final Projectiles shots = new Projectiles();
         Rectangle flag;
         int playerStartX = 60;
         int playerStartY = HEIGHT - 150;
 
-        public void updateEnemy() {
-            if (enemy != null) enemy.update();
+        // Indexed loops: this runs every tick for every enemy and must not allocate iterators
+        public void updateEnemies(double targetX, double targetY) {
+            for (int i = 0; i < enemies.size(); i++) enemies.get(i).update(targetX, targetY, shots);
+            shots.update();
+        }
+
+        public boolean hitsEnemy(Rectangle r) {
+            for (int i = 0; i < enemies.size(); i++) {
+                Enemy e = enemies.get(i);
+                if (e.x < r.x + r.width && e.x + e.w > r.x && e.y < r.y + r.height && e.y + e.h > r.y) return true;
+            }
+            return false;
         }
     }
 
@@ -573,7 +833,7 @@ public class Main extends JPanel implements ActionListener, KeyListener {
             platforms.add(new Platform(150, HEIGHT - 180, 160, 18));
             platforms.add(new Platform(380, HEIGHT - 260, 140, 18));
             platforms.add(new Platform(600, HEIGHT - 320, 120, 18));
-            enemy = new Enemy(200, HEIGHT - 80 - 32, 32, 32, 180, 320, 1.6);
+            enemies.add(new Enemy(200, HEIGHT - 80 - 32, 32, 32, 180, 320, 1.6));
             flag = new Rectangle(600, HEIGHT - 320 - 36, 24, 36);
             playerStartX = 40;
             playerStartY = HEIGHT - 170;
@@ -587,7 +847,7 @@ public class Main extends JPanel implements ActionListener, KeyListener {
             platforms.add(new Platform(300, HEIGHT - 300, 120, 18));
             platforms.add(new Platform(480, HEIGHT - 200, 140, 18));
             platforms.add(new Platform(700, HEIGHT - 320, 120, 18));
-            enemy = new Enemy(350, HEIGHT - 300 - 32, 32, 32, 300, 420, 1.8);
+            enemies.add(new Enemy(350, HEIGHT - 300 - 32, 32, 32, 300, 420, 1.8));
             flag = new Rectangle(700, HEIGHT - 320 - 36, 24, 36);
             playerStartX = 40;
             playerStartY = HEIGHT - 170;
@@ -602,7 +862,7 @@ public class Main extends JPanel implements ActionListener, KeyListener {
             platforms.add(new Platform(440, HEIGHT - 250, 150, 18));
             platforms.add(new Platform(650, HEIGHT - 350, 120, 18));
             platforms.add(new Platform(800, HEIGHT - 250, 100, 18));
-            enemy = new Enemy(300, HEIGHT - 320 - 32, 32, 32, 280, 400, 2.0);
+            enemies.add(new Enemy(300, HEIGHT - 320 - 32, 32, 32, 280, 400, 2.0));
             flag = new Rectangle(800, HEIGHT - 250 - 36, 24, 36);
             playerStartX = 40;
             playerStartY = HEIGHT - 170;
@@ -616,7 +876,7 @@ public class Main extends JPanel implements ActionListener, KeyListener {
             platforms.add(new Platform(300, HEIGHT - 260, 130, 18));
             platforms.add(new Platform(500, HEIGHT - 340, 120, 18));
             platforms.add(new Platform(700, HEIGHT - 260, 140, 18));
-            enemy = new Enemy(500, HEIGHT - 340 - 32, 32, 32, 500, 620, 1.8);
+            enemies.add(new Enemy(500, HEIGHT - 340 - 32, 32, 32, 500, 620, 1.8, "level4/chaser.ai"));
             flag = new Rectangle(700, HEIGHT - 260 - 36, 24, 36);
             playerStartX = 40;
             playerStartY = HEIGHT - 170;
@@ -631,7 +891,7 @@ public class Main extends JPanel implements ActionListener, KeyListener {
             platforms.add(new Platform(480, HEIGHT - 220, 130, 18));
             platforms.add(new Platform(650, HEIGHT - 300, 120, 18));
             platforms.add(new Platform(800, HEIGHT - 220, 100, 18));
-            enemy = new Enemy(480, HEIGHT - 220 - 32, 32, 32, 480, 610, 2.0);
+            enemies.add(new Enemy(480, HEIGHT - 220 - 32, 32, 32, 480, 610, 2.0));
             flag = new Rectangle(800, HEIGHT - 220 - 36, 24, 36);
             playerStartX = 40;
             playerStartY = HEIGHT - 170;
@@ -646,7 +906,7 @@ public class Main extends JPanel implements ActionListener, KeyListener {
             platforms.add(new Platform(500, HEIGHT - 240, 120, 18));
             platforms.add(new Platform(650, HEIGHT - 320, 140, 18));
             platforms.add(new Platform(800, HEIGHT - 240, 100, 18));
-            enemy = new Enemy(300, HEIGHT - 300 - 32, 32, 32, 300, 440, 1.6);
+            enemies.add(new Enemy(300, HEIGHT - 300 - 32, 32, 32, 300, 440, 1.6));
             flag = new Rectangle(800, HEIGHT - 240 - 36, 24, 36);
             playerStartX = 40;
             playerStartY = HEIGHT - 170;
@@ -661,7 +921,7 @@ public class Main extends JPanel implements ActionListener, KeyListener {
             platforms.add(new Platform(430, HEIGHT - 360, 140, 18));
             platforms.add(new Platform(620, HEIGHT - 280, 130, 18));
             platforms.add(new Platform(800, HEIGHT - 360, 100, 18));
-            enemy = new Enemy(430, HEIGHT - 360 - 32, 32, 32, 430, 570, 1.8);
+            enemies.add(new Enemy(430, HEIGHT - 360 - 32, 32, 32, 430, 570, 1.8, "level7/jumper.ai"));
             flag = new Rectangle(800, HEIGHT - 360 - 36, 24, 36);
             playerStartX = 40;
             playerStartY = HEIGHT - 170;
@@ -676,7 +936,7 @@ public class Main extends JPanel implements ActionListener, KeyListener {
             platforms.add(new Platform(500, HEIGHT - 250, 130, 18));
             platforms.add(new Platform(680, HEIGHT - 330, 120, 18));
             platforms.add(new Platform(820, HEIGHT - 380, 70, 18));
-            enemy = new Enemy(300, HEIGHT - 310 - 32, 32, 32, 300, 440, 1.9);
+            enemies.add(new Enemy(300, HEIGHT - 310 - 32, 32, 32, 300, 440, 1.9));
             flag = new Rectangle(820, HEIGHT - 380 - 36, 24, 36);
             playerStartX = 40;
             playerStartY = HEIGHT - 170;
@@ -691,7 +951,7 @@ public class Main extends JPanel implements ActionListener, KeyListener {
             platforms.add(new Platform(450, HEIGHT - 370, 140, 18));
             platforms.add(new Platform(630, HEIGHT - 290, 130, 18));
             platforms.add(new Platform(800, HEIGHT - 370, 100, 18));
-            enemy = new Enemy(450, HEIGHT - 370 - 32, 32, 32, 450, 590, 2.0);
+            enemies.add(new Enemy(450, HEIGHT - 370 - 32, 32, 32, 450, 590, 2.0, "level9/shooter.ai"));
             flag = new Rectangle(800, HEIGHT - 370 - 36, 24, 36);
             playerStartX = 40;
             playerStartY = HEIGHT - 170;
@@ -706,48 +966,155 @@ public class Main extends JPanel implements ActionListener, KeyListener {
             platforms.add(new Platform(500, HEIGHT - 400, 130, 18));
             platforms.add(new Platform(680, HEIGHT - 450, 120, 18));
             platforms.add(new Platform(820, HEIGHT - 500, 70, 18));
-            enemy = new Enemy(300, HEIGHT - 320 - 32, 32, 32, 300, 440, 2.1);
+            enemies.add(new Enemy(300, HEIGHT - 320 - 32, 32, 32, 300, 440, 2.1));
             flag = new Rectangle(820, HEIGHT - 500 - 36, 24, 36);
             playerStartX = 40;
             playerStartY = HEIGHT - 200;
         }
     }
     static class SoundManager {
-            public static void playSound(String filename) {
-                try {
-                    URL url = SoundManager.class.getResource("/" + filename); // <- aquí
-                    if (url == null) {
-                        System.err.println("Sound not found: " + filename);
-                        return;
-                    }
-                    AudioInputStream audioIn = AudioSystem.getAudioInputStream(url);
-                    Clip clip = AudioSystem.getClip();
-                    clip.open(audioIn);
-                    clip.start();
-                } catch (Exception e) {
-                    e.printStackTrace();
+            // Short effects decoded once and kept in memory so playSound never goes back to the asset pack
+            private static final Map<String, CachedSound> cache = new ConcurrentHashMap<>();
+            private static final CachedSound MISSING = new CachedSound(null, null);
+
+            private record CachedSound(AudioFormat format, byte[] data) {
+            }
+
+            // Sound effects are played by a single audio thread that owns the clips, so the simulation
+            // thread only posts a request and never waits for the audio device or a decode
+            private static final ExecutorService audio = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "jumpcube-audio");
+                t.setDaemon(true);
+                return t;
+            });
+            // Audio thread only: one open Clip per effect, rewound on every play; null if it could not be opened
+            private static final Map<String, Clip> clips = new HashMap<>();
+
+            // Decodes the given effects in parallel, then opens their clips on the audio thread so the
+            // first playSound does not pay for mixer discovery or opening the device.
+            public static void preload(String... filenames) {
+                CompletableFuture<?>[] loads = new CompletableFuture<?>[filenames.length];
+                for (int i = 0; i < filenames.length; i++) {
+                    String filename = filenames[i];
+                    loads[i] = CompletableFuture.runAsync(() -> load(filename));
                 }
+                CompletableFuture.allOf(loads).join();
+                CompletableFuture.runAsync(() -> {
+                    for (String filename : filenames) clip(filename);
+                }, audio).join();
+            }
+
+            private static CachedSound load(String path) {
+                return cache.computeIfAbsent(path, p -> {
+                    InputStream in = Assets.stream(p);
+                    if (in == null) {
+                        System.err.println("Sound not found: " + p);
+                        return MISSING;
+                    }
+                    try (AudioInputStream audioIn = AudioSystem.getAudioInputStream(new BufferedInputStream(in))) {
+                        return new CachedSound(audioIn.getFormat(), audioIn.readAllBytes());
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                        return MISSING;
+                    }
+                });
             }
 
-            public static Clip playLoop(String filename, float volumeDb) {
-                try {
-                    URL url = SoundManager.class.getResource("/" + filename); // <- aquí también
-                    if (url == null) {
-                        System.err.println("Sound not found: " + filename);
-                        return null;
+            // Audio thread only
+            private static Clip clip(String path) {
+                if (clips.containsKey(path)) return clips.get(path);
+                CachedSound sound = load(path);
+                Clip clip = null;
+                if (sound != MISSING) {
+                    try {
+                        clip = AudioSystem.getClip();
+                        clip.open(sound.format(), sound.data(), 0, sound.data().length);
+                    } catch (Exception e) {
+                        // e.g. no audio device; reported once, later plays of this effect are silent
+                        System.err.println("Cannot play " + path + ": " + e);
+                        clip = null;
                     }
-                    AudioInputStream audioIn = AudioSystem.getAudioInputStream(url);
-                    Clip clip = AudioSystem.getClip();
-                    clip.open(audioIn);
-                    clip.loop(Clip.LOOP_CONTINUOUSLY);
-                    FloatControl gainControl = (FloatControl) clip.getControl(FloatControl.Type.MASTER_GAIN);
-                    gainControl.setValue(volumeDb);
+                }
+                clips.put(path, clip);
+                return clip;
+            }
+
+            // Returns immediately; the effect is started on the audio thread
+            public static void playSound(String filename) {
+                audio.execute(() -> {
+                    Clip clip = clip(filename);
+                    if (clip == null) return;
+                    clip.stop();
+                    clip.setFramePosition(0);
                     clip.start();
-                    return clip;
-                } catch (Exception e) {
-                    e.printStackTrace();
+                });
+            }
+
+            // Looping background music, decoded from the pack while it plays instead of being loaded
+            // whole into a Clip. Returns null if the track does not exist.
+            public static Music playLoop(String path, float volumeDb) {
+                if (!Assets.exists(path)) {
+                    System.err.println("Sound not found: " + path);
                     return null;
                 }
+                Music music = new Music(path, volumeDb);
+                Thread t = new Thread(music::stream, "jumpcube-music");
+                t.setDaemon(true);
+                t.start();
+                return music;
+            }
+
+            static class Music {
+                private final String path;
+                private final float volumeDb;
+                private volatile boolean running = true;
+
+                Music(String path, float volumeDb) {
+                    this.path = path;
+                    this.volumeDb = volumeDb;
+                }
+
+                public boolean isRunning() {
+                    return running;
+                }
+
+                public void stop() {
+                    running = false;
+                }
+
+                // Feeds a SourceDataLine about a quarter of a second at a time, restarting the entry at its end
+                private void stream() {
+                    SourceDataLine line = null;
+                    byte[] buf = null;
+                    try {
+                        while (running) {
+                            try (AudioInputStream in = AudioSystem.getAudioInputStream(new BufferedInputStream(Assets.stream(path)))) {
+                                AudioFormat format = in.getFormat();
+                                if (line == null) {
+                                    line = AudioSystem.getSourceDataLine(format);
+                                    int chunk = Math.max(1, (int) (format.getFrameRate() / 4)) * format.getFrameSize();
+                                    line.open(format, chunk * 2);
+                                    if (line.isControlSupported(FloatControl.Type.MASTER_GAIN)) {
+                                        ((FloatControl) line.getControl(FloatControl.Type.MASTER_GAIN)).setValue(volumeDb);
+                                    }
+                                    line.start();
+                                    buf = new byte[chunk];
+                                }
+                                int n;
+                                while (running && (n = in.read(buf)) > 0) line.write(buf, 0, n);
+                            }
+                        }
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                    } finally {
+                        running = false;
+                        if (line != null) {
+                            line.stop();
+                            line.flush();
+                            line.close();
+                        }
+                    }
+                }
             }
         }
 
@@ -0,0 +1,85 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Everything {@link Main#drawScene} needs for one frame, copied out of the simulation so the
+ * render thread never reads live game state. Instances are recycled through an {@link Exchange};
+ * arrays only grow when a level has more entities than any level before it.
+ */
+final class RenderSnapshot {
+
+    // Level geometry (platforms, flag) is never modified after construction, so it is shared
+    Main.LevelBase level;
+
+    // Simulation tick the snapshot was taken at; drives sprite animation
+    long tick;
+
+    int playerX, playerY, playerW, playerH;
+    boolean playerRunning, playerAirborne, playerFacingLeft;
+
+    int enemyCount;
+    int[] enemyX = new int[4], enemyY = new int[4], enemyW = new int[4], enemyH = new int[4];
+    boolean[] enemyFacingLeft = new boolean[4];
+
+    int shotCount;
+    final int[] shotX = new int[Main.Projectiles.CAPACITY];
+    final int[] shotY = new int[Main.Projectiles.CAPACITY];
+
+    int textCount;
+    String[] texts = new String[8];
+    int[] textX = new int[8], textY = new int[8];
+    float[] textAlpha = new float[8];
+
+    int score, lives, levelIndex;
+    boolean finished, gameOver;
+
+    // Set by the simulation when published, cleared by the renderer when it takes the snapshot
+    private boolean fresh;
+
+    void ensureEnemyCapacity(int n) {
+        if (enemyX.length >= n) return;
+        enemyX = Arrays.copyOf(enemyX, n);
+        enemyY = Arrays.copyOf(enemyY, n);
+        enemyW = Arrays.copyOf(enemyW, n);
+        enemyH = Arrays.copyOf(enemyH, n);
+        enemyFacingLeft = Arrays.copyOf(enemyFacingLeft, n);
+    }
+
+    void ensureTextCapacity(int n) {
+        if (texts.length >= n) return;
+        texts = Arrays.copyOf(texts, n);
+        textX = Arrays.copyOf(textX, n);
+        textY = Arrays.copyOf(textY, n);
+        textAlpha = Arrays.copyOf(textAlpha, n);
+    }
+
+    /**
+     * Lock-free triple buffer between one writer (simulation) and one reader (render). The writer
+     * fills {@link #back()} and {@link #publish()}es it; the reader always gets the newest complete
+     * snapshot from {@link #latest()}. Neither side ever waits for the other.
+     */
+    static final class Exchange {
+        private final AtomicReference<RenderSnapshot> middle = new AtomicReference<>(new RenderSnapshot());
+        private RenderSnapshot back = new RenderSnapshot();  // owned by the simulation thread
+        private RenderSnapshot front = new RenderSnapshot(); // owned by the render thread
+
+        RenderSnapshot back() {
+            return back;
+        }
+
+        void publish() {
+            back.fresh = true;
+            back = middle.getAndSet(back);
+        }
+
+        RenderSnapshot latest() {
+            if (middle.get().fresh) {
+                front.fresh = false;
+                front = middle.getAndSet(front);
+            }
+            return front;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package org.example;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One packed sprite sheet: the asset {@code <name>.png} plus {@code <name>.txt}, which lists the
+ * animations and the position of each of their frames in the sheet. The sheet is copied into a
+ * {@link VolatileImage} for the screen it is drawn on, so blits stay in video memory, and restored from
+ * the decoded image whenever the driver drops it.
+ */
+final class SpriteAtlas {
+
+    private static final Map<String, SpriteAtlas> loaded = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final BufferedImage source;
+    private final Map<String, Animation> animations;
+
+    // Render thread only
+    private VolatileImage accelerated;
+
+    /** Frames of one animation; all frames have the same size. */
+    static final class Animation {
+        final int ticksPerFrame, w, h;
+        final int[] frameX, frameY;
+
+        Animation(int ticksPerFrame, int w, int h, int[] frameX, int[] frameY) {
+            this.ticksPerFrame = ticksPerFrame;
+            this.w = w;
+            this.h = h;
+            this.frameX = frameX;
+            this.frameY = frameY;
+        }
+
+        int frame(long tick) {
+            return (int) ((tick / ticksPerFrame) % frameX.length);
+        }
+    }
+
+    private SpriteAtlas(String name, BufferedImage source, Map<String, Animation> animations) {
+        this.name = name;
+        this.source = source;
+        this.animations = animations;
+    }
+
+    /** Decodes the atlas once; later calls (from any thread) share it. */
+    static SpriteAtlas load(String name) {
+        return loaded.computeIfAbsent(name, n -> {
+            byte[] index = Assets.read(n + ".txt");
+            try (InputStream png = Assets.stream(n + ".png")) {
+                if (png == null || index == null) throw new IllegalArgumentException("Sprite atlas not found: " + n);
+                BufferedImage image = ImageIO.read(png);
+                return new SpriteAtlas(n, image, parseIndex(n, new String(index, StandardCharsets.UTF_8)));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read sprite atlas " + n, e);
+            }
+        });
+    }
+
+    private static Map<String, Animation> parseIndex(String atlas, String text) {
+        Map<String, Animation> result = new HashMap<>();
+        String[] lines = text.split("\\R");
+        for (int lineNo = 1; lineNo <= lines.length; lineNo++) {
+            String line = lines[lineNo - 1].trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] t = line.split("\\s+");
+            try {
+                int frames = t.length - 4;
+                if (frames < 1) throw new IllegalArgumentException("expected: name ticks width height x,y...");
+                int[] fx = new int[frames], fy = new int[frames];
+                for (int i = 0; i < frames; i++) {
+                    String[] xy = t[4 + i].split(",");
+                    fx[i] = Integer.parseInt(xy[0]);
+                    fy[i] = Integer.parseInt(xy[1]);
+                }
+                result.put(t[0], new Animation(Integer.parseInt(t[1]), Integer.parseInt(t[2]), Integer.parseInt(t[3]), fx, fy));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException(atlas + ".txt:" + lineNo + ": " + e.getMessage(), e);
+            }
+        }
+        return result;
+    }
+
+    Animation animation(String animationName) {
+        Animation a = animations.get(animationName);
+        if (a == null) throw new IllegalArgumentException("No animation '" + animationName + "' in atlas " + name);
+        return a;
+    }
+
+    /**
+     * The image to blit from: an accelerated copy for {@code gc}, or the decoded sheet when there is
+     * no screen (headless rendering into a BufferedImage). Call on the render thread.
+     */
+    Image image(GraphicsConfiguration gc) {
+        if (gc == null) return source;
+
+        boolean restore = false;
+        if (accelerated == null) {
+            accelerated = createAccelerated(gc);
+            restore = true;
+        }
+        int status = accelerated.validate(gc);
+        if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+            accelerated.flush();
+            accelerated = createAccelerated(gc);
+            restore = true;
+        } else if (status == VolatileImage.IMAGE_RESTORED) {
+            restore = true;
+        }
+
+        if (restore) {
+            Graphics2D g = accelerated.createGraphics();
+            try {
+                g.setComposite(AlphaComposite.Src);
+                g.drawImage(source, 0, 0, null);
+            } finally {
+                g.dispose();
+            }
+        }
+        return accelerated;
+    }
+
+    private VolatileImage createAccelerated(GraphicsConfiguration gc) {
+        return gc.createCompatibleVolatileImage(source.getWidth(), source.getHeight(), Transparency.TRANSLUCENT);
+    }
+}
@@ -0,0 +1,75 @@
+package org.example;
+
+import java.awt.*;
+import java.util.Arrays;
+
+/**
+ * Collects the sprites of one frame and draws them grouped by atlas, so each atlas is validated and
+ * bound once per frame instead of once per sprite. Sprites entirely outside the view are dropped when
+ * they are added. The queue is kept in primitive arrays and reused between frames.
+ */
+final class SpriteBatch {
+
+    private final int viewW, viewH;
+
+    private int count = 0;
+    private SpriteAtlas[] atlas = new SpriteAtlas[64];
+    private int[] sx = new int[64], sy = new int[64], sw = new int[64], sh = new int[64];
+    private int[] dx = new int[64], dy = new int[64], dw = new int[64], dh = new int[64];
+    private boolean[] flip = new boolean[64];
+
+    SpriteBatch(int viewW, int viewH) {
+        this.viewW = viewW;
+        this.viewH = viewH;
+    }
+
+    /** Queues the frame of {@code anim} for {@code tick}, scaled to (w, h) at (x, y), mirrored if {@code flipX}. */
+    void draw(SpriteAtlas source, SpriteAtlas.Animation anim, long tick, int x, int y, int w, int h, boolean flipX) {
+        if (x + w <= 0 || y + h <= 0 || x >= viewW || y >= viewH) return;
+        if (count == atlas.length) grow();
+
+        int f = anim.frame(tick);
+        atlas[count] = source;
+        sx[count] = anim.frameX[f];
+        sy[count] = anim.frameY[f];
+        sw[count] = anim.w;
+        sh[count] = anim.h;
+        dx[count] = x;
+        dy[count] = y;
+        dw[count] = w;
+        dh[count] = h;
+        flip[count] = flipX;
+        count++;
+    }
+
+    /** Draws everything queued since the last flush, one atlas at a time, and empties the queue. */
+    void flush(Graphics2D g2, GraphicsConfiguration gc) {
+        for (int i = 0; i < count; i++) {
+            SpriteAtlas current = atlas[i];
+            if (current == null) continue; // already drawn with an earlier group
+            Image img = current.image(gc);
+            for (int j = i; j < count; j++) {
+                if (atlas[j] != current) continue;
+                int x1 = flip[j] ? dx[j] + dw[j] : dx[j];
+                int x2 = flip[j] ? dx[j] : dx[j] + dw[j];
+                g2.drawImage(img, x1, dy[j], x2, dy[j] + dh[j], sx[j], sy[j], sx[j] + sw[j], sy[j] + sh[j], null);
+                atlas[j] = null;
+            }
+        }
+        count = 0;
+    }
+
+    private void grow() {
+        int cap = atlas.length * 2;
+        atlas = Arrays.copyOf(atlas, cap);
+        sx = Arrays.copyOf(sx, cap);
+        sy = Arrays.copyOf(sy, cap);
+        sw = Arrays.copyOf(sw, cap);
+        sh = Arrays.copyOf(sh, cap);
+        dx = Arrays.copyOf(dx, cap);
+        dy = Arrays.copyOf(dy, cap);
+        dw = Arrays.copyOf(dw, cap);
+        dh = Arrays.copyOf(dh, cap);
+        flip = Arrays.copyOf(flip, cap);
+    }
+}
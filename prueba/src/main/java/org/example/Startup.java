@@ -0,0 +1,142 @@
+package org.example;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Startup helpers: background warm-up, the AppCDS training run used by the build
+ * and the time-to-first-frame report.
+ */
+final class Startup {
+
+    // Run with -Djumpcube.startupBenchmark=true to print time-to-first-frame and exit; with
+    // -Djava.awt.headless=true the first frame is painted off-screen, so it also runs without a display
+    static final String BENCHMARK_PROPERTY = "jumpcube.startupBenchmark";
+    // -Djumpcube.warmUp=false skips the background warm-up (used to compare startup with and without it)
+    static final String WARMUP_PROPERTY = "jumpcube.warmUp";
+
+    // Enough ticks for the training run to load every class on the player/enemy update path
+    private static final int TRAINING_TICKS = 600;
+
+    private static long mainEntryNanos;
+    // Set on a single core, where the warm-up waits for the first frame instead of competing with it
+    private static volatile boolean warmUpAfterFirstFrame;
+
+    private Startup() {
+    }
+
+    static void markMainEntry() {
+        mainEntryNanos = System.nanoTime();
+    }
+
+    /**
+     * Decodes the sound effects, loads the sprite atlas and fills the glyph caches on a background
+     * thread while the window is built. On a single core that thread would only compete with the EDT
+     * for the same CPU and delay the first frame, so there it is started once the first frame is on
+     * screen instead; audio is still warm well before the first death or flag.
+     */
+    static void warmUpAsync() {
+        if (!Boolean.parseBoolean(System.getProperty(WARMUP_PROPERTY, "true"))) return;
+        if (Runtime.getRuntime().availableProcessors() < 2) {
+            warmUpAfterFirstFrame = true;
+            return;
+        }
+        startWarmUp();
+    }
+
+    private static void startWarmUp() {
+        Thread t = new Thread(Startup::warmUp, "jumpcube-warmup");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        t.start();
+    }
+
+    static void warmUp() {
+        SpriteAtlas.load("common/atlas");
+        Main.SoundManager.preload("common/death.wav", "common/flagPole.wav");
+        warmUpFonts();
+    }
+
+    // Rasterizes the HUD strings once so glyph caches are filled before the first paint
+    private static void warmUpFonts() {
+        BufferedImage img = new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = img.createGraphics();
+        try {
+            g2.setFont(Main.HUD_FONT);
+            g2.drawString("Score: 0 Lives: 5 Level: 1 / 10 +-", 0, 20);
+            g2.setFont(Main.BANNER_FONT);
+            g2.drawString("GAME OVER", 0, 40);
+        } finally {
+            g2.dispose();
+        }
+    }
+
+    // Runs the real player/enemy update path on throwaway objects so its classes are loaded
+    // (and end up in the CDS archive) without a level being played.
+    private static void exercisePhysics(int ticks) {
+        Main.LevelBase level = new Main.Level9();
+        Main.Player player = new Main.Player(level.playerStartX, level.playerStartY, 36, 48);
+        for (int i = 0; i < ticks; i++) {
+            boolean right = (i / 120) % 2 == 0;
+            Main.stepPlayer(player, level.platforms, !right, right, i % 45 == 0);
+            Rectangle pr = player.getBounds();
+            level.updateEnemies(pr.getCenterX(), pr.getCenterY());
+
+            if (level.hitsEnemy(pr) || level.shots.hits(pr) || player.getY() > Main.HEIGHT + 200) {
+                player.setX(level.playerStartX);
+                player.setY(level.playerStartY);
+                player.resetVelocity();
+                level.shots.clear();
+            }
+        }
+    }
+
+    /**
+     * Training run for the AppCDS archive (see the {@code appcds} profile in pom.xml):
+     * loads and exercises the classes used up to the first frame without opening a window.
+     */
+    static void runTraining() {
+        warmUp();
+        exercisePhysics(TRAINING_TICKS);
+        try {
+            SwingUtilities.invokeAndWait(Startup::paintOffscreen);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        System.exit(0);
+    }
+
+    /** Headless time-to-first-frame: the game panel is painted once into an image instead of a window. */
+    static void runHeadlessBenchmark() {
+        warmUpAsync();
+        SwingUtilities.invokeLater(Startup::paintOffscreen);
+    }
+
+    private static void paintOffscreen() {
+        Main panel = new Main();
+        panel.setSize(Main.WIDTH, Main.HEIGHT);
+        BufferedImage frame = new BufferedImage(Main.WIDTH, Main.HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = frame.createGraphics();
+        panel.paint(g2);
+        g2.dispose();
+    }
+
+    static void firstFrameRendered() {
+        if (warmUpAfterFirstFrame) {
+            warmUpAfterFirstFrame = false;
+            startWarmUp();
+        }
+        if (!Boolean.getBoolean(BENCHMARK_PROPERTY)) return;
+
+        long sinceMainMs = (System.nanoTime() - mainEntryNanos) / 1_000_000;
+        String sinceJvm = ProcessHandle.current().info().startInstant()
+                .map(start -> Duration.between(start, Instant.now()).toMillis() + " ms")
+                .orElse("n/a");
+        System.out.println("Time to first frame: " + sinceJvm + " since JVM start, "
+                + sinceMainMs + " ms since main");
+        SwingUtilities.invokeLater(() -> System.exit(0));
+    }
+}
@@ -0,0 +1,4 @@
+@echo off
+rem Launcher for the jlink runtime image, see bin/jumpcube
+set DIR=%~dp0..
+"%DIR%\bin\javaw.exe" -XX:+UseSerialGC -Xmx128m -XX:+AutoCreateSharedArchive -XX:SharedArchiveFile="%DIR%\lib\app\jumpcube.jsa" -jar "%DIR%\lib\app\jumpcube.jar" %*